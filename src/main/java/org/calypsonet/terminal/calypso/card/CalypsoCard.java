@@ -222,6 +222,9 @@ public interface CalypsoCard extends SmartCard {
    * <p>The file structure of the card image is updated as a result of file read and write
    * operations.
    *
+   * <p>The search is performed in constant time: the card image indexes its files by LID as soon
+   * as their header is known, regardless of whether they were added by SFI or by LID.
+   *
    * @param lid The LID to search.
    * @return Null if the requested EF is not found.
    * @since 1.0.0
@@ -256,6 +259,33 @@ public interface CalypsoCard extends SmartCard {
    */
   Set<ElementaryFile> getFiles();
 
+  /**
+   * Returns a reference to the set of Elementary Files whose header or content has changed in the
+   * card image during the last processing of commands.
+   *
+   * <p>A file has changed if it has been added to the card image, or if its header or the content
+   * of at least one of its records at the end of the processing differs from what it was at the
+   * start of the processing, whatever the origin of the new data: response of the card to a read
+   * command, data of a write command or record served from the card image cache (see {@link
+   * org.calypsonet.terminal.calypso.transaction.CardSecuritySetting#setCardImageCache(
+   * org.calypsonet.terminal.calypso.spi.CardImageCacheSpi)}). Re-reading a record whose content is
+   * identical to the one already present in the card image is therefore not a change. The changed
+   * records are provided by {@link FileData#getUpdatedRecordNumbers()}.
+   *
+   * <p>If the last processing ended with an exception, the set contains the files changed by the
+   * part of the processing performed before the error. The changes that have been discarded from
+   * the card image at the end of the processing (e.g. following the cancellation of the secure
+   * session) are not included.
+   *
+   * <p>This allows an application to forward only the changes of the card image after each
+   * processing, instead of the complete set of files returned by {@link #getFiles()}.
+   *
+   * @return A not null reference (it may be empty if no one EF has been updated).
+   * @see CardTransactionManager#processCommands(boolean)
+   * @since 1.9.0
+   */
+  Set<ElementaryFile> getUpdatedFiles();
+
   /**
    * Tells if the last session with this card has been ratified or not.
    *
@@ -416,6 +446,12 @@ public interface CalypsoCard extends SmartCard {
   /**
    * Gets list of references to the {@link SvDebitLogRecord} read from the card.
    *
+   * <p>The list is ordered from the most recent record to the oldest.
+   *
+   * <p>The fields of the records may be decoded lazily from their raw data at the time they are
+   * accessed, so that an application consulting only the latest records does not bear the cost of
+   * decoding the others.
+   *
    * @return An empty list if no log records are available.
    * @see CardTransactionManager#prepareSvGet(SvOperation, SvAction)
    * @see CardTransactionManager#prepareSvDebit(int)
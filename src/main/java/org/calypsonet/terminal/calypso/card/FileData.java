@@ -11,7 +11,9 @@
  ************************************************************************************** */
 package org.calypsonet.terminal.calypso.card;
 
+import java.nio.ByteBuffer;
 import java.util.SortedMap;
+import org.calypsonet.terminal.calypso.spi.CounterVisitorSpi;
 
 /**
  * Calypso EF content.
@@ -53,6 +55,22 @@ public interface FileData {
    */
   byte[] getContent(int numRecord, int dataOffset, int dataLength);
 
+  /**
+   * Gets a read-only view of the known content of a specific record.
+   *
+   * <p>Unlike {@link #getContent(int, int, int)}, no copy of the content is made: subsets of the
+   * record can be read using the absolute get methods of the returned buffer.
+   *
+   * <p>The view shares the content of the card image and is only valid until the next modification
+   * of the record.
+   *
+   * @param numRecord The record number.
+   * @return a read-only buffer positioned at the start of the record, an empty buffer if the
+   *     requested record is not set.
+   * @since 1.9.0
+   */
+  ByteBuffer getContentAsByteBuffer(int numRecord);
+
   /**
    * Gets a reference to all known records content.
    *
@@ -61,6 +79,23 @@ public interface FileData {
    */
   SortedMap<Integer, byte[]> getAllRecordsContent();
 
+  /**
+   * Gets references to all known records content in an array indexed by record number.<br>
+   * e.g. the content of record #2 is at index 2.
+   *
+   * <p>Unlike {@link #getAllRecordsContent()}, no boxed record number is created.
+   *
+   * <p>A new array is returned on each call and may be freely modified by the caller, without any
+   * effect on the card image. The elements however are references to the records content of the
+   * card image, as with {@link #getAllRecordsContent()}, and must not be modified.
+   *
+   * @return a not null array whose length is the highest known record number + 1 (an empty array if
+   *     there's no content). The element at index 0 and the elements of the records not set are
+   *     null.
+   * @since 1.9.0
+   */
+  byte[][] getAllRecordsContentAsArray();
+
   /**
    * Gets the known value of the counter #numCounter.<br>
    * The counter value is extracted from the 3 next bytes at the index [(numCounter - 1) * 3] of the
@@ -76,6 +111,21 @@ public interface FileData {
    */
   Integer getContentAsCounterValue(int numCounter);
 
+  /**
+   * Gets the known value of the counter #numCounter as a primitive value.<br>
+   * The counter value is extracted in the same way as by {@link #getContentAsCounterValue(int)},
+   * but without creating any boxed value.
+   *
+   * @param numCounter The counter number (should be {@code >=} 1).
+   * @param defaultValue The value to return if record #1 or numCounter is not set.
+   * @return The counter value or defaultValue if record #1 or numCounter is not set.
+   * @throws IllegalArgumentException if numCounter is {@code <} 1.
+   * @throws IndexOutOfBoundsException if numCounter has a truncated value (when size of record #1
+   *     modulo 3 != 0).
+   * @since 1.9.0
+   */
+  int getContentAsCounterValue(int numCounter, int defaultValue);
+
   /**
    * Gets all known counters value.<br>
    * The counters values are extracted from record #1.<br>
@@ -86,4 +136,47 @@ public interface FileData {
    * @since 1.0.0
    */
   SortedMap<Integer, Integer> getAllCountersValue();
+
+  /**
+   * Gets all known counters value in an array indexed by counter number.<br>
+   * e.g. the value of counter #2 is at index 2.
+   *
+   * <p>The counters values are extracted from record #1 in the same way as by {@link
+   * #getAllCountersValue()}, but without creating any boxed value.
+   *
+   * <p>A new array is returned on each call and may be freely modified by the caller, without any
+   * effect on the card image.
+   *
+   * @return an empty array if record #1 is not set, otherwise an array whose length is the number
+   *     of complete counters + 1. The element at index 0 is not significant.
+   * @since 1.9.0
+   */
+  int[] getAllCountersValueAsArray();
+
+  /**
+   * Invokes the provided visitor for each known counter.<br>
+   * The counters values are decoded on the fly from record #1, without building a map.<br>
+   * If last counter has a truncated value (when size of record #1 modulo 3 != 0), then last counter
+   * is not visited.<br>
+   * If record #1 is not set, then the visitor is not invoked.
+   *
+   * @param visitor The visitor to invoke.
+   * @throws IllegalArgumentException if visitor is null.
+   * @since 1.9.0
+   */
+  void forEachCounter(CounterVisitorSpi visitor);
+
+  /**
+   * Gets the numbers of the records whose content has changed in the card image during the last
+   * processing of commands.<br>
+   * A record has changed if its content at the end of the processing differs from what it was at
+   * the start of the processing, under the conditions defined by {@link
+   * CalypsoCard#getUpdatedFiles()}.<br>
+   * For a Counters file, the change of any counter is reported as a change of record #1.
+   *
+   * @return a not null array sorted in ascending order, empty if no record has changed.
+   * @see CalypsoCard#getUpdatedFiles()
+   * @since 1.9.0
+   */
+  int[] getUpdatedRecordNumbers();
 }
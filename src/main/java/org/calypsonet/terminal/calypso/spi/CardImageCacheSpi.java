@@ -0,0 +1,75 @@
+/* **************************************************************************************
+ * Copyright (c) 2023 Calypso Networks Association https://calypsonet.org/
+ *
+ * See the NOTICE file(s) distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the terms of the
+ * Eclipse Public License 2.0 which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ************************************************************************************** */
+package org.calypsonet.terminal.calypso.spi;
+
+import org.calypsonet.terminal.calypso.card.CalypsoCard;
+
+/**
+ * Cache of card images to be implemented in order to avoid reading again unchanged files when the
+ * same card is presented several times within a short period (e.g. double tap or passback checks).
+ *
+ * <p>The card images are identified by the application serial number of the card and by the value
+ * of its transaction counter. The counter is decremented by each secure session, but not by the
+ * modifications made outside a secure session on files whose access conditions allow it. For this
+ * reason, the transaction manager only uses the cache for the records of files whose header is
+ * known and whose access conditions require a secure session for every modification: the content
+ * of such a file cannot change without the counter changing, so it remains valid as long as the
+ * card returns the same counter value. The records of any other file are always read from the
+ * card.
+ *
+ * <p>Note that other commands also decrement the counter (e.g. Change Key, Change/Verify PIN, SV
+ * operations, see {@link CalypsoCard#getTransactionCounter()}); this only causes cache misses.
+ *
+ * <p>The data served from the cache are not part of the digest of the current secure session: their
+ * authenticity relies on the secure session during which they were read and on the above
+ * restriction, not on the current session.
+ *
+ * <p>The card images exchanged with the cache are never shared with a transaction in progress: the
+ * transaction manager stores an immutable snapshot of its card image, taken at the end of the
+ * session closing, and only copies the data of the images it gets from the cache into its own card
+ * image, without ever modifying them. A stored image can thus be returned as is to any number of
+ * transaction managers, including concurrently.
+ *
+ * <p>The eviction policy (maximum size, time to live, etc.) is defined by the implementation, which
+ * must be thread-safe if the cache is shared by several transaction managers.
+ *
+ * @see
+ *     org.calypsonet.terminal.calypso.transaction.CardSecuritySetting#setCardImageCache(CardImageCacheSpi)
+ * @since 1.9.0
+ */
+public interface CardImageCacheSpi {
+
+  /**
+   * Gets the card image stored for the provided card and transaction counter value.
+   *
+   * @param applicationSerialNumber The application serial number of the card (8 bytes).
+   * @param transactionCounter The current value of the transaction counter of the card.
+   * @return Null if no card image is available. The returned image is only read by the transaction
+   *     manager.
+   * @since 1.9.0
+   */
+  CalypsoCard getCardImage(byte[] applicationSerialNumber, int transactionCounter);
+
+  /**
+   * Stores the image of a card for the provided transaction counter value, replacing any previous
+   * image of the same card.
+   *
+   * @param applicationSerialNumber The application serial number of the card (8 bytes).
+   * @param transactionCounter The value of the transaction counter the card will return at the
+   *     next secure session opening.
+   * @param calypsoCard An immutable snapshot of the card image, which is not modified afterwards by
+   *     the transaction manager and can therefore be kept without being copied.
+   * @since 1.9.0
+   */
+  void putCardImage(
+      byte[] applicationSerialNumber, int transactionCounter, CalypsoCard calypsoCard);
+}
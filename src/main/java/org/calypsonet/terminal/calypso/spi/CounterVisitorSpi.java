@@ -0,0 +1,31 @@
+/* **************************************************************************************
+ * Copyright (c) 2023 Calypso Networks Association https://calypsonet.org/
+ *
+ * See the NOTICE file(s) distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the terms of the
+ * Eclipse Public License 2.0 which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ************************************************************************************** */
+package org.calypsonet.terminal.calypso.spi;
+
+/**
+ * Visitor to be implemented in order to iterate over the counters of a file without creating any
+ * intermediate object.
+ *
+ * @see org.calypsonet.terminal.calypso.card.FileData#forEachCounter(CounterVisitorSpi)
+ * @since 1.9.0
+ */
+public interface CounterVisitorSpi {
+
+  /**
+   * Invoked for each known counter, in ascending order of counter number.
+   *
+   * @param counterNumber The counter number (starting at 1).
+   * @param counterValue The counter value.
+   * @since 1.9.0
+   */
+  void visit(int counterNumber, int counterValue);
+}
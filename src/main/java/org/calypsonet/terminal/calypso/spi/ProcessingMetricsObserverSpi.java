@@ -0,0 +1,45 @@
+/* **************************************************************************************
+ * Copyright (c) 2023 Calypso Networks Association https://calypsonet.org/
+ *
+ * See the NOTICE file(s) distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the terms of the
+ * Eclipse Public License 2.0 which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ************************************************************************************** */
+package org.calypsonet.terminal.calypso.spi;
+
+import org.calypsonet.terminal.calypso.transaction.ProcessingMetrics;
+
+/**
+ * Observer to be implemented in order to collect the metrics of each processing of the prepared
+ * commands of a transaction.
+ *
+ * <p>The observer is invoked synchronously by the thread performing the processing, before the
+ * processing returns or raises its exception. It should therefore return quickly (e.g. by only
+ * recording the values in histograms).
+ *
+ * <p>In the case of an asynchronous processing (see {@link
+ * org.calypsonet.terminal.calypso.transaction.CommonTransactionManager#processCommandsAsync(boolean,
+ * java.util.concurrent.Executor, TransactionCallbackSpi)}), the observer is invoked by the thread
+ * of the executor before the {@link TransactionCallbackSpi} callback.
+ *
+ * <p>Any exception raised by the observer is ignored: it has no effect on the outcome of the
+ * processing, nor on the card image.
+ *
+ * @see
+ *     org.calypsonet.terminal.calypso.transaction.CommonTransactionManager#setProcessingMetricsObserver(ProcessingMetricsObserverSpi)
+ * @since 1.9.0
+ */
+public interface ProcessingMetricsObserverSpi {
+
+  /**
+   * Invoked at the end of each processing of the prepared commands, whether successful or not.
+   *
+   * @param metrics The metrics of the processing.
+   * @since 1.9.0
+   */
+  void onProcessingMetrics(ProcessingMetrics metrics);
+}
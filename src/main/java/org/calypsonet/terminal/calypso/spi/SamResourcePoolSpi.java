@@ -0,0 +1,143 @@
+/* **************************************************************************************
+ * Copyright (c) 2023 Calypso Networks Association https://calypsonet.org/
+ *
+ * See the NOTICE file(s) distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the terms of the
+ * Eclipse Public License 2.0 which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ************************************************************************************** */
+package org.calypsonet.terminal.calypso.spi;
+
+import org.calypsonet.terminal.calypso.sam.CalypsoSam;
+import org.calypsonet.terminal.reader.CardReader;
+
+/**
+ * Pool of control SAMs to be implemented in order to share a set of SAMs between several
+ * concurrent transactions.
+ *
+ * <p>A transaction manager allocates a SAM resource from the pool when it needs to communicate with
+ * the SAM for the first time and releases it as soon as the SAM is no longer needed, i.e.:
+ *
+ * <ul>
+ *   <li>At the end of the processing of the prepared commands if no secure session is open.
+ *   <li>At the end of the processing of the secure session closing or canceling otherwise, the
+ *       session digest being kept by the SAM during the whole secure session.
+ *   <li>At the end of any processing interrupted by an exception that aborts the secure session
+ *       (e.g. {@link org.calypsonet.terminal.calypso.transaction.CardIOException} following the
+ *       removal of the card), without waiting for the application to cancel the session.
+ * </ul>
+ *
+ * <p>A SAM resource may also be allocated in anticipation, without waiting, when a secure session
+ * opening is prepared (see {@link
+ * org.calypsonet.terminal.calypso.transaction.CardTransactionManager#prepareOpenSecureSession(
+ * org.calypsonet.terminal.calypso.WriteAccessLevel)}), in which case it is released according to
+ * the same rules, as if it had been allocated by the next processing, or automatically after a
+ * maximum holding duration if no processing is started.
+ *
+ * <p>A SAM resource is therefore never kept allocated by a transaction manager once the processing
+ * has returned or raised an exception, unless a secure session is still open, nor beyond the
+ * maximum holding duration when allocated in anticipation.
+ *
+ * <p>The implementation must be thread-safe since it is invoked concurrently by all the
+ * transaction managers sharing the pool. The allocation and the release must use the {@code
+ * java.util.concurrent} primitives, which also ensures that the state recorded in a SAM resource by
+ * a transaction manager (see {@link SamResource#setPreparedContext(Object)}) is visible to the next
+ * transaction manager to which the resource is allocated.
+ *
+ * <p>The pool must always provide the same {@link SamResource} instance for a given SAM, so that
+ * the state recorded in it follows the SAM from one transaction to the next.
+ *
+ * @see
+ *     org.calypsonet.terminal.calypso.transaction.CommonSecuritySetting#setControlSamResource(SamResourcePoolSpi)
+ * @since 1.9.0
+ */
+public interface SamResourcePoolSpi {
+
+  /**
+   * Allocates a SAM resource for the exclusive use of the calling transaction, waiting if necessary
+   * for a SAM to become available.
+   *
+   * <p>The waiting policy (maximum duration, fairness, etc.) is defined by the implementation.
+   * Since this method is invoked during the processing of the transaction, the waiting must not be
+   * performed while holding a monitor (no {@code synchronized} block or {@link Object#wait()}) but
+   * with the {@code java.util.concurrent} primitives (e.g. a {@link
+   * java.util.concurrent.BlockingQueue} or a {@link java.util.concurrent.Semaphore}), so that a
+   * transaction executed by a virtual thread does not pin its carrier thread.
+   *
+   * @return Null if no SAM resource could be allocated, in which case the transaction manager
+   *     raises a {@link org.calypsonet.terminal.calypso.transaction.SamIOException}.
+   * @since 1.9.0
+   */
+  SamResource allocateSamResource();
+
+  /**
+   * Allocates a SAM resource for the exclusive use of the calling transaction only if one is
+   * immediately available, without ever waiting.
+   *
+   * <p>This method is used for the allocations made in anticipation, which must not delay the
+   * application.
+   *
+   * @return Null if no SAM resource is immediately available.
+   * @since 1.9.0
+   */
+  SamResource tryAllocateSamResource();
+
+  /**
+   * Releases a SAM resource previously allocated with {@link #allocateSamResource()} or {@link
+   * #tryAllocateSamResource()}.
+   *
+   * @param samResource The SAM resource to release.
+   * @since 1.9.0
+   */
+  void releaseSamResource(SamResource samResource);
+
+  /**
+   * A SAM and the reader through which it is accessible.
+   *
+   * <p>In addition, a SAM resource holds an opaque context recorded by the transaction managers
+   * (see {@link
+   * org.calypsonet.terminal.calypso.transaction.CardTransactionManager#initSamContextForNextTransaction()}).
+   * The implementation simply has to store it: it is only accessed by the transaction manager to
+   * which the resource is allocated.
+   *
+   * @since 1.9.0
+   */
+  interface SamResource {
+
+    /**
+     * Gets the reader through which the SAM is accessible.
+     *
+     * @return A not null reference.
+     * @since 1.9.0
+     */
+    CardReader getSamReader();
+
+    /**
+     * Gets the Calypso SAM.
+     *
+     * @return A not null reference having a {@link CalypsoSam.ProductType} different from {@link
+     *     CalypsoSam.ProductType#UNKNOWN}.
+     * @since 1.9.0
+     */
+    CalypsoSam getCalypsoSam();
+
+    /**
+     * Gets the context last recorded with {@link #setPreparedContext(Object)}.
+     *
+     * @return Null if no context has been recorded.
+     * @since 1.9.0
+     */
+    Object getPreparedContext();
+
+    /**
+     * Records an opaque context describing the current state of the SAM.
+     *
+     * @param preparedContext The context to record, null to clear it.
+     * @since 1.9.0
+     */
+    void setPreparedContext(Object preparedContext);
+  }
+}
@@ -0,0 +1,53 @@
+/* **************************************************************************************
+ * Copyright (c) 2023 Calypso Networks Association https://calypsonet.org/
+ *
+ * See the NOTICE file(s) distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the terms of the
+ * Eclipse Public License 2.0 which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ************************************************************************************** */
+package org.calypsonet.terminal.calypso.spi;
+
+/**
+ * Callback to be implemented in order to be notified of the end of an asynchronous processing of
+ * the prepared commands of a transaction.
+ *
+ * <p>The methods of this callback are invoked by the thread that performed the processing, taken
+ * from the executor provided by the application, never by the thread that requested the
+ * processing. They are invoked after the processing metrics observer, if any (see {@link
+ * ProcessingMetricsObserverSpi}).
+ *
+ * @param <T> The type of the transaction manager.
+ * @see
+ *     org.calypsonet.terminal.calypso.transaction.CommonTransactionManager#processCommandsAsync(boolean,
+ *     java.util.concurrent.Executor, TransactionCallbackSpi)
+ * @since 1.9.0
+ */
+public interface TransactionCallbackSpi<T> {
+
+  /**
+   * Invoked when all the prepared commands have been successfully processed.
+   *
+   * <p>At this stage, the card image has been updated in the same way as at the end of a
+   * synchronous processing.
+   *
+   * @param transactionManager The transaction manager that processed the commands.
+   * @since 1.9.0
+   */
+  void onCommandsProcessed(T transactionManager);
+
+  /**
+   * Invoked when the processing of the prepared commands has been interrupted by an error.
+   *
+   * <p>The provided exception is one of those that would have been thrown by the synchronous
+   * processing.
+   *
+   * @param transactionManager The transaction manager that processed the commands.
+   * @param e The exception describing the error.
+   * @since 1.9.0
+   */
+  void onCommandsProcessingFailed(T transactionManager, RuntimeException e);
+}
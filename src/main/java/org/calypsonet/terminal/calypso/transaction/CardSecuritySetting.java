@@ -11,8 +11,10 @@
  ************************************************************************************** */
 package org.calypsonet.terminal.calypso.transaction;
 
+import java.util.concurrent.Executor;
 import org.calypsonet.terminal.calypso.WriteAccessLevel;
 import org.calypsonet.terminal.calypso.sam.CalypsoSam;
+import org.calypsonet.terminal.calypso.spi.CardImageCacheSpi;
 import org.calypsonet.terminal.reader.CardReader;
 
 /**
@@ -42,11 +44,47 @@ public interface CardSecuritySetting extends CommonSecuritySetting<CardSecurityS
    * Enables multiple session mode to allow more changes to the card than the session buffer can
    * handle.
    *
+   * <p>The prepared modification commands are distributed among the secure sessions in their order
+   * of preparation, each session being filled up to the capacity of the session buffer before the
+   * next one is opened.
+   *
+   * <p>The commands are never reordered, even when they are independent of each other: since each
+   * session closing definitively applies its modifications, a transaction interrupted between two
+   * sessions must leave the card with the modifications of a prefix of the prepared commands, in
+   * the order chosen by the application. Among the distributions preserving this order, filling
+   * each session to capacity produces the minimum number of sessions. A distribution allowed to
+   * reorder the commands could in some cases require fewer sessions.
+   *
+   * <p>Each prepared command is entirely executed within a single session: a command that does not
+   * fit in the remaining capacity of the current session is executed in the next one. This
+   * per-command atomicity can be relaxed with {@link #enableMultipleSessionCommandSplitting()}.
+   *
    * @return The current instance.
+   * @see ProcessingPlan#getSessionBufferConsumptionPerSession()
    * @since 1.0.0
    */
   CardSecuritySetting enableMultipleSession();
 
+  /**
+   * Allows, in multiple session mode, a command modifying several counters or writing binary data
+   * to be split into several commands of the same type, so that its first part is executed in the
+   * current session and the rest in the next one.
+   *
+   * <p>This fills each session as much as possible and may thus reduce the number of sessions, but
+   * <b>the atomicity of each prepared command is lost</b>: if the transaction is interrupted
+   * between two sessions, a split command may be only partially applied to the card (e.g. an
+   * "Increase Multiple" applied to only some of its counters, or a binary write applied to only
+   * part of its data).
+   *
+   * <p>The default value is false. This setting has no effect if the multiple session mode is not
+   * enabled.
+   *
+   * @return The current instance.
+   * @see #enableMultipleSession()
+   * @since 1.9.0
+   */
+  CardSecuritySetting enableMultipleSessionCommandSplitting();
+
   /**
    * Enables the ratification mechanism to handle the early removal of the card preventing the
    * terminal from receiving the acknowledgement of the session closing.
@@ -98,6 +136,76 @@ public interface CardSecuritySetting extends CommonSecuritySetting<CardSecurityS
    */
   CardSecuritySetting disableReadOnSessionOpening();
 
+  /**
+   * Defines a cache of card images to be used to avoid reading again unchanged records when the
+   * same card is presented again.
+   *
+   * <p>When the transaction counter of the card is known before the transmission of prepared read
+   * commands (e.g. following a secure session "pre-open" during the selection), the cache is
+   * consulted with the application serial number and the transaction counter of the card. The read
+   * commands whose records are all present in the cached image are then not sent to the card, the
+   * card image being updated from the cached data instead.
+   *
+   * <p>Only the records of files whose header is known and whose access conditions require a secure
+   * session for every modification are concerned. Files that can be modified outside a secure
+   * session, which does not change the transaction counter, are never served from the cache.
+   *
+   * <p>Once a secure session is successfully closed, the records of these files read or written
+   * during the session are stored in the cache. Data served from the cache are not included in the
+   * digest of the current session: the application must only enable the cache if relying on the
+   * session in which they were read is acceptable for its security policy.
+   *
+   * <p>By default, no cache is used.
+   *
+   * @param cardImageCache The cache to use.
+   * @return The current instance.
+   * @throws IllegalArgumentException If the provided cache is null.
+   * @see
+   *     org.calypsonet.terminal.calypso.card.CalypsoCardSelection#preparePreOpenSecureSession(WriteAccessLevel)
+   * @since 1.9.0
+   */
+  CardSecuritySetting setCardImageCache(CardImageCacheSpi cardImageCache);
+
+  /**
+   * Enables the anticipation of the SAM exchanges, performed in the background by the provided
+   * executor.
+   *
+   * <p>The anticipated exchanges are the SAM commands preceding the secure session opening and the
+   * "Digest Update" commands of the exchanges already performed with the card during a secure
+   * session (see {@link CardTransactionManager#prepareCloseSecureSession()}). The implementation
+   * never performs them with threads of its own: they are always submitted to the provided
+   * executor, which determines the threading model.
+   *
+   * <p>When enabled and the control SAM is provided by a {@link
+   * org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi}, the "Select Diversifier" and "Get
+   * Challenge" SAM commands are sent as soon as the secure session opening is prepared, by a task
+   * submitted to the provided executor, so that they overlap with the preparation of the following
+   * commands by the application. The thread preparing the commands is never blocked: the SAM is
+   * allocated by the task without waiting (see {@link
+   * org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi#tryAllocateSamResource()}) and the
+   * anticipation is simply skipped if no SAM is available or if the executor rejects the task.
+   *
+   * <p>A SAM allocated in anticipation is released automatically if no processing of the prepared
+   * commands has started within the provided holding duration, the anticipated exchanges being
+   * then performed again by the next processing.
+   *
+   * <p>The anticipation of the session opening is never performed when the control SAM is defined
+   * with {@link #setControlSamResource(CardReader, CalypsoSam)}.
+   *
+   * <p>By default, the anticipation is disabled.
+   *
+   * @param executor The executor to be used to perform all the anticipated SAM exchanges.
+   * @param maxSamHoldingDuration The maximum duration in milliseconds during which a SAM allocated
+   *     in anticipation is held while waiting for the next processing.
+   * @return The current instance.
+   * @throws IllegalArgumentException If the provided executor is null or if the provided duration
+   *     is negative or zero.
+   * @see CardTransactionManager#prepareOpenSecureSession(WriteAccessLevel)
+   * @see CardTransactionManager#prepareCloseSecureSession()
+   * @since 1.9.0
+   */
+  CardSecuritySetting enableSamExchangeAnticipation(Executor executor, int maxSamHoldingDuration);
+
   /**
    * Defines for a given write access level the KIF value to use for cards that only provide KVC.
    *
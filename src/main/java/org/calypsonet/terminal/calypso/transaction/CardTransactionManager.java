@@ -53,6 +53,40 @@
  *   <li>Input data length: [1..250] or [1..32767] for binary files
  * </ul>
  *
+ * <p>In order to limit the number of exchanges with the card, the prepared read commands are
+ * optimized before being transmitted:
+ *
+ * <ul>
+ *   <li>Inside a secure session (strict mode) only, consecutive "Read Records" commands targeting
+ *       contiguous records of the same EF are merged into a single "Read Records" command reading
+ *       multiple records, provided the card supports it and the expected response fits in its
+ *       buffer. Likewise, consecutive "Read Records" commands targeting the counters of the same EF
+ *       are merged into a single command reading up to the highest requested counter.<br>
+ *       Outside a secure session (best effort mode), read commands are never merged, so that a
+ *       missing record does not prevent the other records from being read.
+ *   <li>Identical read commands belonging to the same uninterrupted sequence of read commands
+ *       prepared for the same processing are transmitted only once. Any other command prepared
+ *       between two read commands interrupts the sequence, whether or not it modifies data (e.g.
+ *       "Open Secure Session", "Close Secure Session", "Verify PIN", "Select File" changing the
+ *       current EF targeted by SFI 0, or any write command): identical read commands separated by
+ *       such a command are all transmitted.
+ * </ul>
+ *
+ * <p>The merging of the read command following a secure session opening into the "Open Secure
+ * Session" command (see {@link #prepareOpenSecureSession(WriteAccessLevel)}) takes precedence:
+ * when it applies, the merged read command is not combined with the following read commands, which
+ * are optimized among themselves.
+ *
+ * <p>Read commands whose data are already present in {@link CalypsoCard} are still transmitted,
+ * since the application explicitly requested the current content of the card, except when they
+ * are served by the card image cache (see {@link
+ * CardSecuritySetting#setCardImageCache(org.calypsonet.terminal.calypso.spi.CardImageCacheSpi)}).
+ *
+ * <p>Apart from the exchanges appearing in the audit data, the result of the processing is the same
+ * as if the commands had been transmitted one by one, except in strict mode when a read command
+ * fails: the same exception is raised, but the records preceding the failing one in a merged
+ * command may not be filled in {@link CalypsoCard}.
+ *
  * @since 1.0.0
  */
 public interface CardTransactionManager
@@ -973,9 +1007,11 @@ CardTransactionManager prepareDecreaseCounters(
    *   <li>All APDUs resulting from prepared commands are grouped and sent to the card.
    *   <li>The {@link CalypsoCard} object is updated with the result of the executed commands.
    *   <li>If a secure session is opened, except in the case where reloading or debit SV operations
-   *       have been prepared, the invocation of this method does not generate communication with
-   *       the SAM. The data necessary for the calculation of the terminal signature are kept to be
-   *       sent to the SAM at the time of the invocation of {@link #processClosing()}.<br>
+   *       have been prepared, the invocation of this method does not wait for any communication
+   *       with the SAM. The data necessary for the calculation of the terminal signature are kept
+   *       to be sent to the SAM at the latest at the time of the invocation of {@link
+   *       #processClosing()}, possibly earlier in the background by the executor provided by the
+   *       application (see {@link #prepareCloseSecureSession()}).<br>
    *       The card channel is kept open.
    *   <li>If no secure session is opened, the card channel is closed depending on whether or not
    *       prepareReleaseCardChannel has been called.
@@ -1285,6 +1321,38 @@ CardTransactionManager prepareChangeKey(
    * <p>This mechanism may in some cases be incompatible with the security constraints and can be
    * disabled via the {@link CardSecuritySetting#disableReadOnSessionOpening()} method.
    *
+   * <p>The SAM commands required before the session opening ("Select Diversifier" with the card
+   * serial number and "Get Challenge") do not depend on the commands prepared by the application.
+   * They may therefore be sent to the SAM in advance, without waiting for the processing:
+   *
+   * <ul>
+   *   <li>the terminal challenge may have been obtained at the end of the previous transaction (see
+   *       {@link #initSamContextForNextTransaction()}),
+   *   <li>when the anticipation of the SAM exchanges is enabled (see {@link
+   *       CardSecuritySetting#enableSamExchangeAnticipation(java.util.concurrent.Executor, int)})
+   *       and the control SAM is provided by a {@link
+   *       org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi}, these SAM exchanges are started
+   *       in the background by the executor provided by the application when this method is
+   *       invoked, the card serial number being known from the selection, so that they overlap
+   *       with the preparation of the following commands by the application.
+   * </ul>
+   *
+   * <p>This method never blocks the calling thread: the SAM is allocated by the background task
+   * only if one is immediately available, otherwise the anticipation is skipped. The SAM allocated
+   * in anticipation is then held exclusively by the transaction and released according to the
+   * rules defined by {@link org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi}, as if it had
+   * been allocated by the next processing. If the transaction is abandoned, it is released by the
+   * processing of {@link #prepareCancelSecureSession()} or, at the latest, automatically once the
+   * holding duration defined in the {@link CardSecuritySetting} has elapsed without any processing.
+   *
+   * <p>The background anticipation is never performed when the control SAM is defined with {@link
+   * CardSecuritySetting#setControlSamResource(CardReader,
+   * org.calypsonet.terminal.calypso.sam.CalypsoSam)}, since this SAM may be shared with other
+   * transaction managers whose own exchanges would overwrite the challenge kept by the SAM.
+   *
+   * <p>If an error occurs during the anticipated exchanges, the SAM is released and the exchanges
+   * are performed again by the next processing, which reports any error as usual.
+   *
    * @param writeAccessLevel The write access level to be used.
    * @return The current instance.
    * @throws IllegalArgumentException If the provided argument is null.
@@ -1378,6 +1446,30 @@ CardTransactionManager prepareChangeKey(
    * <p>In this case, a ratification command is added after the "Close Secure Session" command when
    * the communication is done in contactless mode.
    *
+   * <p><b>Card and SAM exchanges in detail</b>
+   *
+   * <p>The terminal session signature sent to the card with the "Close Secure Session" command is
+   * computed by the SAM from the digest of all the session exchanges, including the anticipated
+   * responses of the commands sent to the card in the same card request. The SAM exchanges
+   * producing this signature can therefore not overlap with the final card request, which would
+   * otherwise have to be split into two card requests.
+   *
+   * <p>However, the digest of the exchanges already performed with the card during the session
+   * (previous processing of commands) does not depend on the closing. When the anticipation of the
+   * SAM exchanges is enabled (see {@link
+   * CardSecuritySetting#enableSamExchangeAnticipation(java.util.concurrent.Executor, int)}), the
+   * corresponding "Digest Update" commands are sent to the SAM as soon as these exchanges are
+   * completed, by tasks submitted to the executor provided by the application, concurrently with
+   * the following card exchanges. Only the digest of the last prepared commands and the signature
+   * computation then remain to be performed when the session is closed. Otherwise, or if the
+   * executor rejects a task, the "Digest Update" commands are sent by the thread performing the
+   * processing of the session closing. The implementation never creates threads of its own.
+   *
+   * <p>These background "Digest Update" commands do not block the processing of the card commands.
+   * Any error occurring during their execution (e.g. {@link SamIOException} or {@link
+   * UnexpectedCommandStatusException}) is reported by the next processing, as if the commands had
+   * been sent to the SAM at that time, and at the latest by the processing of the session closing.
+   *
    * @return The current instance.
    * @throws IllegalStateException In the following cases:
    *     <ul>
@@ -1413,11 +1505,31 @@ CardTransactionManager prepareChangeKey(
    *
    * <p>This command will be executed in safe mode and will not raise any exceptions.
    *
+   * <p>If no secure session is open, the processing of this command does not involve any exchange
+   * with the card: it discards a possibly prepared secure session opening and releases the control
+   * SAM allocated in anticipation from a {@link
+   * org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi}, if any.
+   *
    * @return The current instance.
    * @since 1.6.0
    */
   CardTransactionManager prepareCancelSecureSession();
 
+  /**
+   * Describes the exchanges that the next processing of the prepared commands will perform with the
+   * card and the SAM, without performing them.
+   *
+   * <p>The returned plan reflects the grouping of the APDUs into card and SAM requests, including
+   * the optimizations of the read commands, the secure session commands and the SAM exchanges
+   * required by the security settings.
+   *
+   * <p>The prepared commands are left unchanged and can be processed afterwards.
+   *
+   * @return A not null reference.
+   * @since 1.9.0
+   */
+  ProcessingPlan describePreparedCommands();
+
   /**
    * Prepares the SAM for the next transaction by anticipating all security context configuration
    * operations.
@@ -1430,6 +1542,27 @@ CardTransactionManager prepareChangeKey(
    * of the current transaction, i.e. <u>after</u> having notified the user of the access right
    * (e.g. after opening the gate).
    *
+   * <p>The prepared context does not depend on the next card: it is used by the next secure session
+   * opening performed with the same SAM, whatever the card presented. A SAM can only hold one
+   * prepared context at a time (a single terminal challenge is kept by the SAM), so preparing
+   * several contexts in advance requires several SAMs.
+   *
+   * <p>When the control SAM is provided by a {@link
+   * org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi}, the context is prepared on a SAM
+   * allocated from the pool, which is then released. The prepared context is recorded in the SAM
+   * resource itself (see {@link
+   * org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi.SamResource#setPreparedContext(Object)})
+   * and not in the {@link CardSecuritySetting}: it is used by the next transaction to which the
+   * same SAM resource is allocated, whatever its security setting, and any transaction manager
+   * using the SAM resource for other purposes (including a {@link SamTransactionManager}) clears it
+   * beforehand. When the next transaction is allocated another SAM resource, the context is
+   * prepared again during the next session opening.
+   *
+   * <p>Since the SAM keeps only the last challenge it generated, any use of the SAM outside of the
+   * transaction managers (e.g. direct exchanges through its reader) invalidates the recorded
+   * context without the transaction manager being able to detect it. This method must therefore
+   * not be used when the SAMs of the pool are accessed by such other means.
+   *
    * @throws IllegalStateException In the following cases:
    *     <ul>
    *       <li>No {@link CardSecuritySetting} is available
@@ -12,6 +12,7 @@
 package org.calypsonet.terminal.calypso.transaction;
 
 import org.calypsonet.terminal.calypso.sam.CalypsoSam;
+import org.calypsonet.terminal.calypso.spi.SamResourcePoolSpi;
 import org.calypsonet.terminal.calypso.spi.SamRevocationServiceSpi;
 import org.calypsonet.terminal.reader.CardReader;
 
@@ -36,6 +37,21 @@
    */
   S setControlSamResource(CardReader samReader, CalypsoSam calypsoSam);
 
+  /**
+   * Defines a pool of control SAMs shared with other transactions, from which a SAM is allocated
+   * each time the relevant cryptographic operations have to be handled.
+   *
+   * <p>This method is an alternative to {@link #setControlSamResource(CardReader, CalypsoSam)}: the
+   * last invoked method determines the control SAM resource used.
+   *
+   * @param samResourcePool The pool of control SAMs.
+   * @return The current instance.
+   * @throws IllegalArgumentException If the provided pool is null.
+   * @see SamResourcePoolSpi
+   * @since 1.9.0
+   */
+  S setControlSamResource(SamResourcePoolSpi samResourcePool);
+
   /**
    * Sets the service to be used to dynamically check if a SAM is revoked or not.
    *
@@ -12,6 +12,9 @@
 package org.calypsonet.terminal.calypso.transaction;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import org.calypsonet.terminal.calypso.spi.ProcessingMetricsObserverSpi;
+import org.calypsonet.terminal.calypso.spi.TransactionCallbackSpi;
 
 /**
  * Common service providing the high-level API to manage transactions with a Calypso card or SAM.
@@ -43,6 +46,20 @@
    */
   List<byte[]> getTransactionAuditData();
 
+  /**
+   * Sets the observer to be notified of the metrics (durations per phase, number of APDUs and
+   * bytes exchanged) of each processing of the prepared commands.
+   *
+   * <p>Unlike the audit data, the metrics do not contain the exchanged data and are intended for
+   * monitoring purposes.
+   *
+   * @param observer The observer to notify, null to stop the notifications.
+   * @return The current instance.
+   * @see ProcessingMetrics
+   * @since 1.9.0
+   */
+  T setProcessingMetricsObserver(ProcessingMetricsObserverSpi observer);
+
   /**
    * Schedules the execution of a "Data Cipher" or "PSO Compute Signature" SAM command.
    *
@@ -63,6 +80,12 @@
    *       diversifier set previously by "Select Diversifier" command.
    * </ul>
    *
+   * <p>All the signature commands prepared before the next processing are sent to the SAM grouped
+   * in a single SAM card request. Applications having a high volume of signatures to compute with
+   * the same SAM should therefore prepare them in batches rather than processing them one by one.
+   * Note that commands prepared by different transaction managers are never grouped, since each of
+   * them may depend on a SAM context (diversifier, session digest) specific to its transaction.
+   *
    * @param data The input/output data containing the parameters of the command.
    * @return The current instance.
    * @throws IllegalArgumentException If the input data is inconsistent.
@@ -79,6 +102,9 @@
    * <p>Once the command is processed, the result will be available in the provided input/output
    * {@link BasicSignatureVerificationData} or {@link TraceableSignatureVerificationData} objects.
    *
+   * <p>As for signature computation, all the signature verification commands prepared before the
+   * next processing are sent to the SAM grouped in a single SAM card request.
+   *
    * @param data The input/output data containing the parameters of the command.
    * @return The current instance.
    * @throws IllegalArgumentException If the input data is inconsistent.
@@ -132,6 +158,11 @@
    *
    * <p>The process is interrupted at the first failed command.
    *
+   * <p>The exchanges with the card and the SAM, including those with a SAM shared by several
+   * transaction managers, must not be performed while holding a monitor (no {@code synchronized}
+   * block or method around the reader I/O). This allows the processing to be executed by a virtual
+   * thread without pinning its carrier thread during the communications.
+   *
    * @param closePhysicalChannel True if the physical channel must be closed after the operation.
    * @return The current instance.
    * @throws ReaderIOException If a communication error with the card reader or SAM reader occurs.
@@ -155,4 +186,39 @@
    * @since 1.6.0
    */
   T processCommands(boolean closePhysicalChannel);
+
+  /**
+   * Processes asynchronously all previously prepared commands and closes the physical channel if
+   * requested.
+   *
+   * <p>This method returns immediately: the processing, performed in the same way as by {@link
+   * #processCommands(boolean)}, is submitted as a task to the provided executor, which thus runs
+   * the exchanges with the card and the SAM. The calling thread never performs any I/O.
+   *
+   * <p>Since the card and SAM readers perform blocking I/O, the executor determines the threading
+   * model: e.g. an executor creating one virtual thread per task allows a single application thread
+   * to drive many readers without tying up a platform thread per reader.
+   *
+   * <p>At the end of the processing, the provided callback is invoked exactly once, either with
+   * {@link TransactionCallbackSpi#onCommandsProcessed(Object)} if all the commands have been
+   * successfully processed, or with {@link
+   * TransactionCallbackSpi#onCommandsProcessingFailed(Object, RuntimeException)} and one of the
+   * exceptions documented by {@link #processCommands(boolean)}. The callback is invoked by the
+   * thread of the executor that performed the processing.
+   *
+   * <p>Until the callback is invoked, the transaction manager must not be used: any call to one of
+   * its methods will raise an {@link IllegalStateException}.
+   *
+   * @param closePhysicalChannel True if the physical channel must be closed after the operation.
+   * @param executor The executor to be used to perform the processing.
+   * @param callback The callback to be notified of the end of the processing.
+   * @throws IllegalArgumentException If the provided executor or callback is null.
+   * @throws IllegalStateException If an asynchronous processing is already in progress.
+   * @throws java.util.concurrent.RejectedExecutionException If the executor does not accept the
+   *     processing task (the callback is not invoked in this case).
+   * @see #processCommands(boolean)
+   * @since 1.9.0
+   */
+  void processCommandsAsync(
+      boolean closePhysicalChannel, Executor executor, TransactionCallbackSpi<T> callback);
 }
@@ -0,0 +1,146 @@
+/* **************************************************************************************
+ * Copyright (c) 2023 Calypso Networks Association https://calypsonet.org/
+ *
+ * See the NOTICE file(s) distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the terms of the
+ * Eclipse Public License 2.0 which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ************************************************************************************** */
+package org.calypsonet.terminal.calypso.transaction;
+
+import org.calypsonet.terminal.calypso.spi.ProcessingMetricsObserverSpi;
+
+/**
+ * Timings and volumes measured during one processing of the prepared commands of a transaction.
+ *
+ * <p>All durations are expressed in nanoseconds. The durations of the different phases are
+ * measured separately and their sum may be lower than the total duration (e.g. time spent in the
+ * application's callbacks) or higher (e.g. when card and SAM exchanges are performed
+ * concurrently).
+ *
+ * @see CommonTransactionManager#setProcessingMetricsObserver(ProcessingMetricsObserverSpi)
+ * @since 1.9.0
+ */
+public interface ProcessingMetrics {
+
+  /**
+   * Indicates whether the processing ended successfully or was interrupted by an exception.
+   *
+   * @return True if the processing was successful.
+   * @since 1.9.0
+   */
+  boolean isSuccessful();
+
+  /**
+   * Gets the total duration of the processing.
+   *
+   * @return A positive value.
+   * @since 1.9.0
+   */
+  long getTotalDuration();
+
+  /**
+   * Gets the cumulated duration of the round trips with the card (card requests transmitted to the
+   * card reader).
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the card.
+   * @since 1.9.0
+   */
+  long getCardExchangeDuration();
+
+  /**
+   * Gets the cumulated duration of the round trips with the SAM (card requests transmitted to the
+   * SAM reader).
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the SAM.
+   * @since 1.9.0
+   */
+  long getSamExchangeDuration();
+
+  /**
+   * Gets the cumulated duration of the computation by the terminal of the secure session digest
+   * data, including the anticipation of the card responses, excluding the exchanges with the SAM.
+   *
+   * @return A positive or zero value, 0 if no secure session was involved.
+   * @since 1.9.0
+   */
+  long getDigestComputationDuration();
+
+  /**
+   * Gets the cumulated duration of the update of the card image with the data of the card
+   * responses.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the card.
+   * @since 1.9.0
+   */
+  long getCardImageUpdateDuration();
+
+  /**
+   * Gets the number of card requests (round trips) transmitted to the card.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the card.
+   * @since 1.9.0
+   */
+  int getCardRequestCount();
+
+  /**
+   * Gets the number of APDUs sent to the card.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the card.
+   * @since 1.9.0
+   */
+  int getCardApduCount();
+
+  /**
+   * Gets the total number of bytes of the APDU commands sent to the card.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the card.
+   * @since 1.9.0
+   */
+  int getCardBytesSent();
+
+  /**
+   * Gets the total number of bytes of the APDU responses received from the card, status words
+   * included.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the card.
+   * @since 1.9.0
+   */
+  int getCardBytesReceived();
+
+  /**
+   * Gets the number of card requests (round trips) transmitted to the SAM.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the SAM.
+   * @since 1.9.0
+   */
+  int getSamRequestCount();
+
+  /**
+   * Gets the number of APDUs sent to the SAM.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the SAM.
+   * @since 1.9.0
+   */
+  int getSamApduCount();
+
+  /**
+   * Gets the total number of bytes of the APDU commands sent to the SAM.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the SAM.
+   * @since 1.9.0
+   */
+  int getSamBytesSent();
+
+  /**
+   * Gets the total number of bytes of the APDU responses received from the SAM, status words
+   * included.
+   *
+   * @return A positive or zero value, 0 if there was no exchange with the SAM.
+   * @since 1.9.0
+   */
+  int getSamBytesReceived();
+}
@@ -0,0 +1,450 @@
+/* **************************************************************************************
+ * Copyright (c) 2023 Calypso Networks Association https://calypsonet.org/
+ *
+ * See the NOTICE file(s) distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the terms of the
+ * Eclipse Public License 2.0 which is available at http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ************************************************************************************** */
+package org.calypsonet.terminal.calypso.transaction;
+
+import java.util.List;
+
+/**
+ * Description of the exchanges that the next processing of the prepared commands will perform
+ * with the card and the SAM.
+ *
+ * <p>The plan is computed from the prepared commands and the current content of the card image,
+ * without any communication. It describes the nominal case: an error occurring during the
+ * processing interrupts it before the end of the plan.
+ *
+ * @see CardTransactionManager#describePreparedCommands()
+ * @since 1.9.0
+ */
+public interface ProcessingPlan {
+
+  /**
+   * Gets the requests that will be transmitted to the card and to the SAM, in the order of their
+   * transmission.
+   *
+   * <p>Each request corresponds to one round trip with the reader concerned.
+   *
+   * @return A not null list, empty if no command is prepared.
+   * @since 1.9.0
+   */
+  List<PlannedRequest> getRequests();
+
+  /**
+   * Gets the estimated consumption of the card session buffer by the prepared modification
+   * commands.
+   *
+   * <p>The value is expressed in the unit defined by the card (bytes or number of commands), as
+   * for {@link org.calypsonet.terminal.calypso.card.CalypsoCard#getSessionModification()}.
+   *
+   * <p>The buffer already consumed in the currently open secure session by previous processings is
+   * not included (see {@link #getSessionBufferAlreadyConsumed()}).
+   *
+   * @return 0 if no modification command is prepared within a secure session.
+   * @since 1.9.0
+   */
+  int getSessionBufferConsumption();
+
+  /**
+   * Gets the consumption of the card session buffer by the modification commands already processed
+   * in the currently open secure session, in the same unit as {@link
+   * #getSessionBufferConsumption()}.
+   *
+   * <p>Several processings may take place within the same secure session; the buffer consumed by
+   * the previous ones reduces the capacity available for the prepared commands.
+   *
+   * @return 0 if no secure session is currently open.
+   * @since 1.9.0
+   */
+  int getSessionBufferAlreadyConsumed();
+
+  /**
+   * Gets the capacity of the card session buffer available for each secure session, in the same
+   * unit as {@link #getSessionBufferConsumption()}.
+   *
+   * @return The capacity decoded from the session modification byte of the card.
+   * @since 1.9.0
+   */
+  int getSessionBufferCapacity();
+
+  /**
+   * Gets the estimated consumption of the card session buffer for each of the secure sessions
+   * involved in the next processing, in the order of their execution.
+   *
+   * <p>The first element includes the buffer already consumed in the currently open secure session,
+   * if any (see {@link #getSessionBufferAlreadyConsumed()}). The last element is the session that
+   * remains open or that is closed at the end of the processing.
+   *
+   * <ul>
+   *   <li>When no split is needed, the array contains a single element.
+   *   <li>When the multiple session mode is enabled and the modifications exceed the session buffer
+   *       capacity, the array contains one element per session, intermediate and last sessions
+   *       included. The split points can be located in {@link #getRequests()} as the {@link
+   *       CommandType#CLOSE_SECURE_SESSION} and {@link CommandType#OPEN_SECURE_SESSION} commands
+   *       inserted between the prepared commands.
+   *   <li>When the multiple session mode is disabled and an overflow is expected, the array
+   *       contains a single element greater than {@link #getSessionBufferCapacity()}.
+   * </ul>
+   *
+   * @return A not null array, empty if no secure session is involved in the next processing.
+   * @see CardSecuritySetting#enableMultipleSession()
+   * @since 1.9.0
+   */
+  int[] getSessionBufferConsumptionPerSession();
+
+  /**
+   * Indicates whether the next processing will fail because the multiple session mode is disabled
+   * and the prepared modifications, added to the buffer already consumed in the currently open
+   * secure session, exceed the session buffer capacity.
+   *
+   * @return True if a {@link SessionBufferOverflowException} is expected.
+   * @since 1.9.0
+   */
+  boolean isSessionBufferOverflowExpected();
+
+  /**
+   * A group of APDUs transmitted in a single request to the card or to the SAM.
+   *
+   * @since 1.9.0
+   */
+  interface PlannedRequest {
+
+    /**
+     * Gets the target of the request.
+     *
+     * @return A not null reference.
+     * @since 1.9.0
+     */
+    Target getTarget();
+
+    /**
+     * Gets the types of the commands of the request, one per APDU, in the order of their
+     * transmission.
+     *
+     * @return A not null and not empty list of command types consistent with the target of the
+     *     request.
+     * @since 1.9.0
+     */
+    List<CommandType> getCommandTypes();
+  }
+
+  /**
+   * The targets of a planned request.
+   *
+   * @since 1.9.0
+   */
+  enum Target {
+    /**
+     * The card.
+     *
+     * @since 1.9.0
+     */
+    CARD,
+    /**
+     * The control SAM.
+     *
+     * @since 1.9.0
+     */
+    SAM
+  }
+
+  /**
+   * The types of the commands of a planned request.
+   *
+   * <p>The constants prefixed with "SAM_" are the commands sent to the SAM, the others are the
+   * commands sent to the card.
+   *
+   * @since 1.9.0
+   */
+  enum CommandType {
+    /**
+     * "Select File" card command.
+     *
+     * @since 1.9.0
+     */
+    SELECT_FILE,
+    /**
+     * "Get Data" card command.
+     *
+     * @since 1.9.0
+     */
+    GET_DATA,
+    /**
+     * "Read Records" card command.
+     *
+     * @since 1.9.0
+     */
+    READ_RECORDS,
+    /**
+     * "Read Record Multiple" card command.
+     *
+     * @since 1.9.0
+     */
+    READ_RECORD_MULTIPLE,
+    /**
+     * "Read Binary" card command.
+     *
+     * @since 1.9.0
+     */
+    READ_BINARY,
+    /**
+     * "Search Record Multiple" card command.
+     *
+     * @since 1.9.0
+     */
+    SEARCH_RECORD_MULTIPLE,
+    /**
+     * "Append Record" card command.
+     *
+     * @since 1.9.0
+     */
+    APPEND_RECORD,
+    /**
+     * "Update Record" card command.
+     *
+     * @since 1.9.0
+     */
+    UPDATE_RECORD,
+    /**
+     * "Write Record" card command.
+     *
+     * @since 1.9.0
+     */
+    WRITE_RECORD,
+    /**
+     * "Update Binary" card command.
+     *
+     * @since 1.9.0
+     */
+    UPDATE_BINARY,
+    /**
+     * "Write Binary" card command.
+     *
+     * @since 1.9.0
+     */
+    WRITE_BINARY,
+    /**
+     * "Increase" card command.
+     *
+     * @since 1.9.0
+     */
+    INCREASE,
+    /**
+     * "Decrease" card command.
+     *
+     * @since 1.9.0
+     */
+    DECREASE,
+    /**
+     * "Increase Multiple" card command.
+     *
+     * @since 1.9.0
+     */
+    INCREASE_MULTIPLE,
+    /**
+     * "Decrease Multiple" card command.
+     *
+     * @since 1.9.0
+     */
+    DECREASE_MULTIPLE,
+    /**
+     * "Open Secure Session" card command.
+     *
+     * @since 1.9.0
+     */
+    OPEN_SECURE_SESSION,
+    /**
+     * "Manage Secure Session" card command.
+     *
+     * @since 1.9.0
+     */
+    MANAGE_SECURE_SESSION,
+    /**
+     * "Close Secure Session" card command.
+     *
+     * @since 1.9.0
+     */
+    CLOSE_SECURE_SESSION,
+    /**
+     * "Ratification" card command.
+     *
+     * @since 1.9.0
+     */
+    RATIFICATION,
+    /**
+     * "Get Challenge" card command.
+     *
+     * @since 1.9.0
+     */
+    GET_CHALLENGE,
+    /**
+     * "Verify PIN" card command.
+     *
+     * @since 1.9.0
+     */
+    VERIFY_PIN,
+    /**
+     * "Change PIN" card command.
+     *
+     * @since 1.9.0
+     */
+    CHANGE_PIN,
+    /**
+     * "Change Key" card command.
+     *
+     * @since 1.9.0
+     */
+    CHANGE_KEY,
+    /**
+     * "SV Get" card command.
+     *
+     * @since 1.9.0
+     */
+    SV_GET,
+    /**
+     * "SV Reload" card command.
+     *
+     * @since 1.9.0
+     */
+    SV_RELOAD,
+    /**
+     * "SV Debit" card command.
+     *
+     * @since 1.9.0
+     */
+    SV_DEBIT,
+    /**
+     * "SV Undebit" card command.
+     *
+     * @since 1.9.0
+     */
+    SV_UNDEBIT,
+    /**
+     * "Invalidate" card command.
+     *
+     * @since 1.9.0
+     */
+    INVALIDATE,
+    /**
+     * "Rehabilitate" card command.
+     *
+     * @since 1.9.0
+     */
+    REHABILITATE,
+    /**
+     * "Select Diversifier" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_SELECT_DIVERSIFIER,
+    /**
+     * "Get Challenge" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_GET_CHALLENGE,
+    /**
+     * "Give Random" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_GIVE_RANDOM,
+    /**
+     * "Digest Init" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_DIGEST_INIT,
+    /**
+     * "Digest Update" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_DIGEST_UPDATE,
+    /**
+     * "Digest Close" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_DIGEST_CLOSE,
+    /**
+     * "Digest Authenticate" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_DIGEST_AUTHENTICATE,
+    /**
+     * "Digest Internal Authenticate" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_DIGEST_INTERNAL_AUTHENTICATE,
+    /**
+     * "Digest External Authenticate" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_DIGEST_EXTERNAL_AUTHENTICATE,
+    /**
+     * "Card Cipher PIN" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_CARD_CIPHER_PIN,
+    /**
+     * "Card Generate Key" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_CARD_GENERATE_KEY,
+    /**
+     * "SV Prepare Load" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_SV_PREPARE_LOAD,
+    /**
+     * "SV Prepare Debit" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_SV_PREPARE_DEBIT,
+    /**
+     * "SV Prepare Undebit" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_SV_PREPARE_UNDEBIT,
+    /**
+     * "SV Check" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_SV_CHECK,
+    /**
+     * "Data Cipher" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_DATA_CIPHER,
+    /**
+     * "PSO Compute Signature" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_PSO_COMPUTE_SIGNATURE,
+    /**
+     * "PSO Verify Signature" SAM command.
+     *
+     * @since 1.9.0
+     */
+    SAM_PSO_VERIFY_SIGNATURE
+  }
+}